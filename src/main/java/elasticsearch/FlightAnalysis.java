@@ -13,6 +13,7 @@ public class FlightAnalysis {
             querySecurityDelay(client);
             topDelays(client);
         }
+        metrics.Metrics.flush();
     }
 
     /**
@@ -40,6 +41,11 @@ public class FlightAnalysis {
             String line;
             while ((line = reader.readLine()) != null) {
                 if (line.isBlank()) continue;
+                if (metrics.Metrics.isEnabled()) {
+                    // UTF-8 bytes of the line plus its newline
+                    metrics.Metrics.count(metrics.Metrics.BYTES_PROCESSED,
+                            line.getBytes(java.nio.charset.StandardCharsets.UTF_8).length + 1);
+                }
 
                 // The assignment explicitly asks to use JsonData.
                 // We keep the original JSON structure and let Elasticsearch infer mappings.
@@ -67,7 +73,11 @@ public class FlightAnalysis {
     private static void executeBulk(co.elastic.clients.elasticsearch.ElasticsearchClient client,
                                     co.elastic.clients.elasticsearch.core.BulkRequest.Builder bulk,
                                     int totalSoFar) throws java.io.IOException {
+        long start = metrics.Metrics.start();
         var response = client.bulk(bulk.build());
+        metrics.Metrics.stop(metrics.Metrics.BULK, start);
+        metrics.Metrics.count(metrics.Metrics.DOCS_INDEXED, response.items().size());
+
         if (response.errors()) {
             System.err.println("Bulk indexing reported errors (after " + totalSoFar + " docs). Showing first few:");
             response.items().stream()
@@ -88,6 +98,8 @@ public class FlightAnalysis {
         String delayedField = "statistics.flights.delayed";
         String securityDelayCountField = "statistics.# of delays.security";
 
+        var profile = metrics.Metrics.profile(() -> delayedField + ">=2500 AND " + securityDelayCountField + "==0");
+        long start = profile.start();
         var response = client.search(s -> s
                         .index(AIRLINES_INDEX)
                         .size(25)
@@ -104,6 +116,10 @@ public class FlightAnalysis {
                                 ))
                         )),
                 co.elastic.clients.json.JsonData.class);
+        profile.end(metrics.Metrics.SEARCH, start);
+        profile.serverTook(response.took() * 1_000_000L);
+        var total = response.hits().total();
+        profile.finish(total != null ? total.value() : response.hits().hits().size());
 
         System.out.println("Query (>=2500 delayed flights AND 0 security delays) results: " + response.hits().hits().size());
         response.hits().hits().forEach(hit -> {
@@ -124,6 +140,8 @@ public class FlightAnalysis {
         String airlineField = "carrier.name.keyword";
         String delayedField = "statistics.flights.delayed";
 
+        var profile = metrics.Metrics.profile(() -> "top_airlines: terms ordered by sum(" + delayedField + ")");
+        long start = profile.start();
         co.elastic.clients.elasticsearch.core.SearchResponse<Void> response;
         try {
             response = topDelaysAgg(client, airlineField, delayedField);
@@ -132,12 +150,16 @@ public class FlightAnalysis {
             airlineField = "carrier.name";
             response = topDelaysAgg(client, airlineField, delayedField);
         }
+        profile.end(metrics.Metrics.AGGREGATION, start);
+        profile.serverTook(response.took() * 1_000_000L);
 
         var agg = response.aggregations().get("top_airlines");
         if (agg == null || agg.sterms() == null) {
             System.out.println("No aggregation results (is the index populated and is '" + airlineField + "' mapped as keyword?)");
+            profile.finish(0);
             return;
         }
+        profile.finish(agg.sterms().buckets().array().size());
 
         System.out.println("Top 5 airlines by total delayed flights:");
         for (var bucket : agg.sterms().buckets().array()) {
@@ -0,0 +1,59 @@
+package lucene;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks on a scaled-up copy of the corpus, kept out of {@link HelloLucene}
+ * because they take a while and write large temporary indexes.
+ *
+ * Usage: Benchmarks [facets] [profiles]
+ * Without arguments, all benchmarks run. Temporary indexes are deleted afterwards.
+ */
+public class Benchmarks {
+
+    public static void main(String[] args) throws Exception {
+        Path textsPath = Path.of("src/main/resources");
+        boolean all = args.length == 0;
+
+        if (all || contains(args, "facets")) {
+            // Doc values vs stored fields for hits per author
+            Path benchIndex = Files.createTempDirectory("german_lit_index_bench");
+            System.out.println("--- facetBenchmark ---");
+            try {
+                GermanLiterature.facetBenchmark(benchIndex, textsPath, 20, 10);
+            } finally {
+                deleteRecursively(benchIndex);
+            }
+        }
+
+        if (all || contains(args, "profiles")) {
+            // Size, indexing throughput and fetch latency per IndexProfile
+            Path reportDir = Files.createTempDirectory("german_lit_index_profiles");
+            System.out.println("\n--- profileReport ---");
+            try {
+                GermanLiterature.profileReport(reportDir, textsPath, 10, 1000);
+            } finally {
+                deleteRecursively(reportDir);
+            }
+        }
+    }
+
+    private static boolean contains(String[] args, String name) {
+        for (String arg : args) {
+            if (arg.equalsIgnoreCase(name)) return true;
+        }
+        return false;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -11,15 +11,28 @@ import org.apache.lucene.misc.HighFreqTerms;
 import org.apache.lucene.misc.TermStats;
 import org.apache.lucene.queries.mlt.MoreLikeThis;
 import org.apache.lucene.analysis.CharArraySet;
+import metrics.Metrics;
+import metrics.QueryProfile;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class GermanLiterature {
 
     public static void writeToIndex(Path indexPath, Path textsPath) throws IOException {
+        writeToIndex(indexPath, textsPath, IndexProfile.SPEED);
+    }
+
+    public static void writeToIndex(Path indexPath, Path textsPath, IndexProfile profile) throws IOException {
 
         // 1. German analyzer
         Analyzer analyzer = new GermanAnalyzer();
@@ -27,74 +40,130 @@ public class GermanLiterature {
         // 2. Persistent index directory
         Directory directory = FSDirectory.open(indexPath);
 
-        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        IndexWriterConfig config = profile.writerConfig(analyzer);
         IndexWriter writer = new IndexWriter(directory, config);
 
-        // 3. FieldType for content WITH term vectors
-        FieldType contentType = new FieldType();
-        contentType.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS);
-        contentType.setTokenized(true);
-        contentType.setStored(true);
-        contentType.setStoreTermVectors(true);
-        contentType.freeze();
+        // 3. FieldType for content (stored with term vectors unless SEARCH_ONLY)
+        FieldType contentType = profile.contentFieldType();
 
         // 4. Add all documents
-        addDocument(writer, "Die Räuber", "Friedrich Schiller",
-                textsPath.resolve("Die_Raeuber.txt"), contentType);
-
-        addDocument(writer, "Effi Briest", "Theodor Fontane",
-                textsPath.resolve("Effi_Briest.txt"), contentType);
-
-        addDocument(writer, "Egmont", "Johann Wolfgang von Goethe",
-                textsPath.resolve("Egmont.txt"), contentType);
+        addCorpus(writer, textsPath, contentType);
 
-        addDocument(writer, "Faust I", "Johann Wolfgang von Goethe",
-                textsPath.resolve("Faust_I.txt"), contentType);
+        writer.close();
+        directory.close();
+    }
 
-        addDocument(writer, "Faust II", "Johann Wolfgang von Goethe",
-                textsPath.resolve("Faust_II.txt"), contentType);
+    private record Work(String title, String author, String file) {
+    }
 
-        addDocument(writer, "Die Verwandlung", "Franz Kafka",
-                textsPath.resolve("Die_Verwandlung.txt"), contentType);
+    private static final List<Work> WORKS = List.of(
+            new Work("Die Räuber", "Friedrich Schiller", "Die_Raeuber.txt"),
+            new Work("Effi Briest", "Theodor Fontane", "Effi_Briest.txt"),
+            new Work("Egmont", "Johann Wolfgang von Goethe", "Egmont.txt"),
+            new Work("Faust I", "Johann Wolfgang von Goethe", "Faust_I.txt"),
+            new Work("Faust II", "Johann Wolfgang von Goethe", "Faust_II.txt"),
+            new Work("Die Verwandlung", "Franz Kafka", "Die_Verwandlung.txt")
+    );
+
+    static void addCorpus(IndexWriter writer, Path textsPath, FieldType contentType) throws IOException {
+        for (Work work : WORKS) {
+            addDocument(writer, work.title(), work.author(),
+                    Files.readString(textsPath.resolve(work.file())), contentType);
+        }
+    }
 
-        writer.close();
-        directory.close();
+    /**
+     * Adds every work split into passages of at least {@code passageChars} characters
+     * (cut at blank lines), one document per passage.
+     */
+    static void addCorpusPassages(IndexWriter writer, Path textsPath, FieldType contentType,
+                                  int passageChars) throws IOException {
+        for (Work work : WORKS) {
+            StringBuilder passage = new StringBuilder();
+            for (String paragraph : Files.readString(textsPath.resolve(work.file())).split("\\n\\s*\\n")) {
+                passage.append(paragraph).append("\n\n");
+                if (passage.length() >= passageChars) {
+                    addDocument(writer, work.title(), work.author(), passage.toString(), contentType);
+                    passage.setLength(0);
+                }
+            }
+            if (!passage.isEmpty()) {
+                addDocument(writer, work.title(), work.author(), passage.toString(), contentType);
+            }
+        }
     }
 
     private static void addDocument(IndexWriter writer,
                                     String title,
                                     String author,
-                                    Path filePath,
+                                    String content,
                                     FieldType contentType) throws IOException {
 
-        String content = Files.readString(filePath);
-
         Document doc = new Document();
-        doc.add(new StringField("title", title, Field.Store.YES));
-        doc.add(new StringField("author", author, Field.Store.YES));
+        // KeywordField = StringField + sorted-set doc values, so grouping needs no stored fields
+        doc.add(new KeywordField("title", title, Field.Store.YES));
+        doc.add(new KeywordField("author", author, Field.Store.YES));
         doc.add(new Field("content", content, contentType));
 
         writer.addDocument(doc);
+
+        Metrics.count(Metrics.DOCS_INDEXED, 1);
+        if (Metrics.isEnabled()) {
+            Metrics.count(Metrics.BYTES_PROCESSED, content.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    private static IndexReader openReader(Directory directory) throws IOException {
+        long start = Metrics.start();
+        IndexReader reader = DirectoryReader.open(directory);
+        Metrics.stop(Metrics.INDEX_OPEN, start);
+        return reader;
+    }
+
+    private static TopDocs search(IndexSearcher searcher, Query query, int n, QueryProfile profile) throws IOException {
+        long start = profile.start();
+        Query rewritten = searcher.rewrite(query);
+        profile.end(Metrics.REWRITE, start);
+
+        start = profile.start();
+        TopDocs results = searcher.search(rewritten, n);
+        profile.end(Metrics.SEARCH, start);
+        return results;
+    }
+
+    private static List<Document> fetchDocuments(IndexReader reader, TopDocs results, QueryProfile profile) throws IOException {
+        // Load all hits before printing, so the phase only measures stored-field access
+        long start = profile.start();
+        StoredFields storedFields = reader.storedFields();
+        List<Document> docs = new ArrayList<>(results.scoreDocs.length);
+        for (ScoreDoc sd : results.scoreDocs) {
+            docs.add(storedFields.document(sd.doc));
+        }
+        profile.end(Metrics.STORED_FETCH, start);
+        return docs;
     }
 
     public static void hasFaustQuery(Path indexPath) throws IOException {
 
         // 1. Open index
         Directory directory = FSDirectory.open(indexPath);
-        IndexReader reader = DirectoryReader.open(directory);
+        IndexReader reader = openReader(directory);
         IndexSearcher searcher = new IndexSearcher(reader);
 
         // 2. TermQuery for "faust" in content field
         TermQuery query = new TermQuery(new Term("content", "faust"));
 
         // 3. Execute search
-        TopDocs results = searcher.search(query, 10);
+        QueryProfile profile = Metrics.profile(query);
+        TopDocs results = search(searcher, query, 10, profile);
 
         // 4. Output titles
+        List<Document> docs = fetchDocuments(reader, results, profile);
+        profile.finish(results.totalHits.value());
+
         System.out.println("Documents containing 'faust':");
 
-        for (ScoreDoc scoreDoc : results.scoreDocs) {
-            Document doc = reader.storedFields().document(scoreDoc.doc);
+        for (Document doc : docs) {
             System.out.println(" - " + doc.get("title"));
         }
 
@@ -105,7 +174,7 @@ public class GermanLiterature {
     public static void moreThanFaustQuery(Path indexPath) throws IOException {
 
         Directory directory = FSDirectory.open(indexPath);
-        IndexReader reader = DirectoryReader.open(directory);
+        IndexReader reader = openReader(directory);
         IndexSearcher searcher = new IndexSearcher(reader);
 
         /* --------------------------------------------------
@@ -120,11 +189,14 @@ public class GermanLiterature {
                 .add(mephQuery, BooleanClause.Occur.MUST)
                 .build();
 
-        TopDocs booleanResults = searcher.search(booleanQuery, 10);
+        QueryProfile booleanProfile = Metrics.profile(booleanQuery);
+        TopDocs booleanResults = search(searcher, booleanQuery, 10, booleanProfile);
+
+        List<Document> booleanDocs = fetchDocuments(reader, booleanResults, booleanProfile);
+        booleanProfile.finish(booleanResults.totalHits.value());
 
         System.out.println("BooleanQuery results:");
-        for (ScoreDoc sd : booleanResults.scoreDocs) {
-            Document doc = reader.storedFields().document(sd.doc);
+        for (Document doc : booleanDocs) {
             System.out.println(" - " + doc.get("title"));
         }
 
@@ -138,11 +210,14 @@ public class GermanLiterature {
                 .setSlop(50)   // large enough to bridge distance
                 .build();
 
-        TopDocs phraseResults = searcher.search(phraseQuery, 10);
+        QueryProfile phraseProfile = Metrics.profile(phraseQuery);
+        TopDocs phraseResults = search(searcher, phraseQuery, 10, phraseProfile);
+
+        List<Document> phraseDocs = fetchDocuments(reader, phraseResults, phraseProfile);
+        phraseProfile.finish(phraseResults.totalHits.value());
 
         System.out.println("\nPhraseQuery results:");
-        for (ScoreDoc sd : phraseResults.scoreDocs) {
-            Document doc = reader.storedFields().document(sd.doc);
+        for (Document doc : phraseDocs) {
             System.out.println(" - " + doc.get("title"));
         }
 
@@ -154,7 +229,7 @@ public class GermanLiterature {
 
         // 1. Open index
         Directory directory = FSDirectory.open(indexPath);
-        IndexReader reader = DirectoryReader.open(directory);
+        IndexReader reader = openReader(directory);
 
         // 2. Get top 20 most frequent terms in "content"
         TermStats[] topTerms = HighFreqTerms.getHighFreqTerms(
@@ -180,7 +255,7 @@ public class GermanLiterature {
 
         // 1. Open index
         Directory directory = FSDirectory.open(indexPath);
-        IndexReader reader = DirectoryReader.open(directory);
+        IndexReader reader = openReader(directory);
         IndexSearcher searcher = new IndexSearcher(reader);
 
         Analyzer analyzer = new GermanAnalyzer();
@@ -192,15 +267,9 @@ public class GermanLiterature {
         mlt.setMinTermFreq(5);
         mlt.setMinDocFreq(2);
 
-        // 3. Find Faust I doc ID
-        int faustDocId = -1;
-        for (int i = 0; i < reader.maxDoc(); i++) {
-            Document doc = reader.storedFields().document(i);
-            if ("Faust I".equals(doc.get("title"))) {
-                faustDocId = i;
-                break;
-            }
-        }
+        // 3. Find Faust I doc ID via the indexed title
+        TopDocs faust = searcher.search(new TermQuery(new Term("title", "Faust I")), 1);
+        int faustDocId = faust.scoreDocs.length == 0 ? -1 : faust.scoreDocs[0].doc;
         if (faustDocId == -1) {
             System.out.println("Faust I not found in index.");
             reader.close();
@@ -212,13 +281,16 @@ public class GermanLiterature {
         Query query = mlt.like(faustDocId);
 
         // 5. Execute search
-        TopDocs results = searcher.search(query, 10);
+        QueryProfile profile = Metrics.profile(query);
+        TopDocs results = search(searcher, query, 10, profile);
+
+        List<Document> docs = fetchDocuments(reader, results, profile);
+        profile.finish(results.totalHits.value());
 
         System.out.println("Documents similar to Faust I:");
-        for (ScoreDoc sd : results.scoreDocs) {
-            Document doc = reader.storedFields().document(sd.doc);
+        for (int i = 0; i < docs.size(); i++) {
             System.out.printf(" - %s (score: %.4f)%n",
-                    doc.get("title"), sd.score);
+                    docs.get(i).get("title"), results.scoreDocs[i].score);
         }
 
         reader.close();
@@ -237,12 +309,7 @@ public class GermanLiterature {
         IndexWriter writer = new IndexWriter(directory, config);
 
         // 3. FieldType for content with term vectors
-        FieldType contentType = new FieldType();
-        contentType.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS);
-        contentType.setTokenized(true);
-        contentType.setStored(true);
-        contentType.setStoreTermVectors(true);
-        contentType.freeze();
+        FieldType contentType = IndexProfile.SPEED.contentFieldType();
 
         // 4. Re-index all documents from original index
         Directory originalDirectory = FSDirectory.open(originalIndexPath);
@@ -255,11 +322,12 @@ public class GermanLiterature {
                 String content = oldDoc.get("content");
 
                 Document newDoc = new Document();
-                newDoc.add(new StringField("title", title, Field.Store.YES));
-                newDoc.add(new StringField("author", author, Field.Store.YES));
+                newDoc.add(new KeywordField("title", title, Field.Store.YES));
+                newDoc.add(new KeywordField("author", author, Field.Store.YES));
                 newDoc.add(new Field("content", content, contentType));
 
                 writer.addDocument(newDoc);
+                Metrics.count(Metrics.DOCS_INDEXED, 1);
             }
         }
 
@@ -283,4 +351,333 @@ public class GermanLiterature {
         newReader.close();
         directory.close();
     }
-}
\ No newline at end of file
+
+    public static void hitsPerAuthor(Path indexPath) throws IOException {
+
+        Directory directory = FSDirectory.open(indexPath);
+        IndexReader reader = openReader(directory);
+        IndexSearcher searcher = new IndexSearcher(reader);
+
+        // 1. Group all works mentioning "liebe" (stemmed to "lieb") by author
+        TermQuery query = new TermQuery(new Term("content", "lieb"));
+        GroupingCollector.Result result = facetSearch(searcher, query, "author", 3, 1.0);
+
+        // 2. Output counts and the best works per author, read from doc values as well
+        System.out.println(result.totalHits() + " works containing 'liebe', per author:");
+        for (GroupingCollector.Group group : result.groups()) {
+            System.out.println(" - " + group.value() + " (" + group.count() + ")");
+            for (ScoreDoc sd : group.topHits()) {
+                System.out.printf("     %s (score: %.4f)%n", docValue(reader, "title", sd.doc), sd.score);
+            }
+        }
+
+        reader.close();
+        directory.close();
+    }
+
+    /**
+     * Counts hits per value of a keyword field and keeps the top hits of each group,
+     * using only doc values. A sample rate below 1.0 counts only a fraction of the hits
+     * and returns estimated counts, for very large result sets; top hits stay exact.
+     */
+    public static GroupingCollector.Result facetSearch(IndexSearcher searcher,
+                                                       Query query,
+                                                       String field,
+                                                       int topHitsPerGroup,
+                                                       double sampleRate) throws IOException {
+        QueryProfile profile = Metrics.profile(query);
+        long start = profile.start();
+        GroupingCollector.Result result =
+                searcher.search(query, GroupingCollector.manager(field, topHitsPerGroup, sampleRate));
+        profile.end(Metrics.FACET, start);
+        profile.finish(result.totalHits());
+        return result;
+    }
+
+    private static String docValue(IndexReader reader, String field, int docId) throws IOException {
+        LeafReaderContext leaf = reader.leaves().get(ReaderUtil.subIndex(docId, reader.leaves()));
+        SortedSetDocValues values = DocValues.getSortedSet(leaf.reader(), field);
+        if (!values.advanceExact(docId - leaf.docBase)) {
+            return null;
+        }
+        return values.lookupOrd(values.nextOrd()).utf8ToString();
+    }
+
+    public static void facetBenchmark(Path benchIndexPath, Path textsPath, int copies, int iterations) throws IOException {
+
+        // 1. Build an index of ~1,000 char passages, repeated `copies` times, for a large result set
+        Directory directory = FSDirectory.open(benchIndexPath);
+        IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new GermanAnalyzer()));
+        FieldType contentType = IndexProfile.SPEED.contentFieldType();
+        for (int i = 0; i < copies; i++) {
+            addCorpusPassages(writer, textsPath, contentType, 1000);
+        }
+        writer.close();
+
+        IndexReader reader = openReader(directory);
+        IndexSearcher searcher = new IndexSearcher(reader);
+        TermQuery query = new TermQuery(new Term("content", "lieb"));
+
+        // 2. Warm up both code paths
+        for (int i = 0; i < 3; i++) {
+            storedFieldCounts(searcher, query);
+            facetSearch(searcher, query, "author", 3, 1.0);
+        }
+
+        // 3. Measure
+        long storedNanos = 0;
+        long docValuesNanos = 0;
+        long sampledNanos = 0;
+        Map<String, Long> storedCounts = null;
+        GroupingCollector.Result exact = null;
+        GroupingCollector.Result sampled = null;
+        for (int i = 0; i < iterations; i++) {
+            long t0 = System.nanoTime();
+            storedCounts = storedFieldCounts(searcher, query);
+            long t1 = System.nanoTime();
+            exact = facetSearch(searcher, query, "author", 0, 1.0);
+            long t2 = System.nanoTime();
+            sampled = facetSearch(searcher, query, "author", 0, 0.1);
+            long t3 = System.nanoTime();
+
+            storedNanos += t1 - t0;
+            docValuesNanos += t2 - t1;
+            sampledNanos += t3 - t2;
+        }
+
+        // 4. Output
+        System.out.println("Hits per author: " + exact.totalHits() + " hits of " + reader.maxDoc() + " docs, "
+                + iterations + " iterations (avg ms):");
+        System.out.printf(" - stored fields:       %8.3f%n", storedNanos / 1e6 / iterations);
+        System.out.printf(" - doc values:          %8.3f%n", docValuesNanos / 1e6 / iterations);
+        System.out.printf(" - doc values (10%%):    %8.3f%n", sampledNanos / 1e6 / iterations);
+        System.out.println("Counts (stored / doc values / sampled estimate):");
+        for (GroupingCollector.Group group : exact.groups()) {
+            long estimate = sampled.groups().stream()
+                    .filter(g -> g.value().equals(group.value()))
+                    .mapToLong(GroupingCollector.Group::count)
+                    .findFirst().orElse(0L);
+            System.out.println(" - " + group.value() + ": " + storedCounts.get(group.value())
+                    + " / " + group.count() + " / " + estimate);
+        }
+
+        reader.close();
+        directory.close();
+    }
+
+    private static Map<String, Long> storedFieldCounts(IndexSearcher searcher, Query query) throws IOException {
+        // The pre-doc-values way: load the stored document of every hit.
+        TopDocs results = searcher.search(query, Math.max(1, searcher.getIndexReader().maxDoc()));
+        StoredFields storedFields = searcher.getIndexReader().storedFields();
+        Map<String, Long> counts = new HashMap<>();
+        for (ScoreDoc sd : results.scoreDocs) {
+            Document doc = storedFields.document(sd.doc);
+            counts.merge(doc.get("author"), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Writes the corpus as passage documents (about 1,000 chars each) for {@link PassageHighlighter}.
+     */
+    public static void writePassageIndex(Path passagesPath, Path textsPath) throws IOException {
+        Directory directory = FSDirectory.open(passagesPath);
+        IndexWriter writer = new IndexWriter(directory, IndexProfile.SPEED.writerConfig(new GermanAnalyzer()));
+        addCorpusPassages(writer, textsPath, IndexProfile.SPEED.contentFieldType(), 1000);
+        writer.close();
+        directory.close();
+    }
+
+    public static void highlightMatches(Path indexPath, Path passagesPath) throws IOException {
+
+        Directory directory = FSDirectory.open(indexPath);
+        IndexReader reader = openReader(directory);
+        IndexSearcher searcher = new IndexSearcher(reader);
+
+        // 1. Term, boolean and phrase query
+        Query termQuery = new TermQuery(new Term("content", "gretch"));
+
+        Query booleanQuery = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term("content", "faust")), BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term("content", "mephistophel")), BooleanClause.Occur.MUST)
+                .build();
+
+        Query phraseQuery = new PhraseQuery.Builder()
+                .add(new Term("content", "gregor"))
+                .add(new Term("content", "samsa"))
+                .build();
+
+        // 2. Print the best passages of each hit
+        try (PassageHighlighter highlighter = new PassageHighlighter(passagesPath)) {
+            for (Query query : List.of(termQuery, booleanQuery, phraseQuery)) {
+                TopDocs results = searcher.search(query, 10);
+
+                System.out.println("Snippets for " + query + ":");
+                for (ScoreDoc sd : results.scoreDocs) {
+                    String title = docValue(reader, "title", sd.doc);
+                    System.out.println(" - " + title);
+                    for (String snippet : highlighter.highlight(query, title, 2)) {
+                        System.out.println("     " + snippet.replaceAll("\\s+", " "));
+                    }
+                }
+            }
+        }
+
+        reader.close();
+        directory.close();
+    }
+
+    /**
+     * Merges the index down to at most {@code maxSegments} segments. Only segments that
+     * take part in a merge are written with the given profile's codec; an index that already
+     * has {@code maxSegments} or fewer segments is left untouched. Use {@link #rewriteIndex}
+     * to re-encode a whole index.
+     */
+    public static void forceMerge(Path indexPath, IndexProfile profile, int maxSegments) throws IOException {
+        Directory directory = FSDirectory.open(indexPath);
+        IndexWriterConfig config = profile.writerConfig(new GermanAnalyzer());
+        config.setOpenMode(IndexWriterConfig.OpenMode.APPEND);
+
+        long start = Metrics.start();
+        IndexWriter writer = new IndexWriter(directory, config);
+        writer.forceMerge(maxSegments);
+        writer.close();
+        Metrics.stop(Metrics.FORCE_MERGE, start);
+
+        directory.close();
+    }
+
+    /**
+     * Copies every segment of {@code sourcePath} into a new index at {@code targetPath},
+     * re-encoding it with the given profile's codec (e.g. to switch SPEED to COMPRESSION).
+     * The field schema is copied as is: rewriting with SEARCH_ONLY does not drop stored
+     * content or term vectors, only re-indexing does.
+     */
+    public static void rewriteIndex(Path sourcePath, Path targetPath, IndexProfile profile) throws IOException {
+        Directory source = FSDirectory.open(sourcePath);
+        Directory target = FSDirectory.open(targetPath);
+        IndexWriterConfig config = profile.writerConfig(new GermanAnalyzer());
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+
+        long start = Metrics.start();
+        try (DirectoryReader reader = DirectoryReader.open(source);
+             IndexWriter writer = new IndexWriter(target, config)) {
+            CodecReader[] segments = new CodecReader[reader.leaves().size()];
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = (CodecReader) reader.leaves().get(i).reader();
+            }
+            writer.addIndexes(segments);
+        }
+        Metrics.stop(Metrics.INDEX_REWRITE, start);
+
+        target.close();
+        source.close();
+    }
+
+    public static void profileReport(Path reportPath, Path textsPath, int copies, int fetches) throws IOException {
+
+        System.out.println("Corpus x" + copies + ", " + fetches + " random stored-field fetches per profile");
+
+        for (IndexProfile profile : IndexProfile.values()) {
+            Path indexPath = Files.createDirectories(reportPath.resolve(profile.name().toLowerCase()));
+
+            // 1. Index the scaled corpus, one segment per copy; no compound files so sizes
+            //    can be split by file type, no merges so the force merge has work to do
+            Directory directory = FSDirectory.open(indexPath);
+            IndexWriterConfig config = profile.writerConfig(new GermanAnalyzer());
+            config.setUseCompoundFile(false);
+            config.setMergePolicy(NoMergePolicy.INSTANCE);
+            FieldType contentType = profile.contentFieldType();
+
+            long indexStart = System.nanoTime();
+            IndexWriter writer = new IndexWriter(directory, config);
+            for (int i = 0; i < copies; i++) {
+                addCorpus(writer, textsPath, contentType);
+                writer.commit();
+            }
+            writer.close();
+            long indexNanos = System.nanoTime() - indexStart;
+            int segmentsBefore = SegmentInfos.readLatestCommit(directory).size();
+            directory.close();
+
+            // 2. Compact to a single segment
+            long mergeStart = System.nanoTime();
+            forceMerge(indexPath, profile, 1);
+            long mergeNanos = System.nanoTime() - mergeStart;
+
+            // 3. Random stored-field fetches
+            directory = FSDirectory.open(indexPath);
+            int segmentsAfter = SegmentInfos.readLatestCommit(directory).size();
+            IndexReader reader = openReader(directory);
+            StoredFields storedFields = reader.storedFields();
+            Random random = new Random(42);
+            long fetchStart = System.nanoTime();
+            long chars = 0;
+            for (int i = 0; i < fetches; i++) {
+                Document doc = storedFields.document(random.nextInt(reader.maxDoc()));
+                chars += doc.get("title").length();
+            }
+            long fetchNanos = System.nanoTime() - fetchStart;
+            int numDocs = reader.numDocs();
+            reader.close();
+
+            // 4. Output
+            Map<String, Long> sizes = new TreeMap<>();
+            long total = 0;
+            for (String file : directory.listAll()) {
+                if (file.equals(IndexWriter.WRITE_LOCK_NAME)) {
+                    continue;
+                }
+                long size = directory.fileLength(file);
+                int dot = file.lastIndexOf('.');
+                String ext = dot < 0 ? "segments" : file.substring(dot + 1);
+                sizes.merge(ext, size, Long::sum);
+                total += size;
+            }
+            directory.close();
+
+            long corpusBytes = 0;
+            try (var texts = Files.list(textsPath)) {
+                for (Path text : texts.filter(p -> p.toString().endsWith(".txt")).toList()) {
+                    corpusBytes += Files.size(text);
+                }
+            }
+            double indexSeconds = indexNanos / 1e9;
+
+            System.out.println("\n" + profile + ":");
+            System.out.printf("  indexing:    %.2f s, %.1f docs/s, %.1f MB/s%n",
+                    indexSeconds, numDocs / indexSeconds, corpusBytes * copies / 1e6 / indexSeconds);
+            System.out.printf("  force merge: %.2f s, %d -> %d segments%n",
+                    mergeNanos / 1e9, segmentsBefore, segmentsAfter);
+            System.out.printf("  fetch:       %.3f ms/doc (%d title chars read)%n", fetchNanos / 1e6 / fetches, chars);
+            System.out.printf("  on disk:     %.2f MB%n", total / 1e6);
+            for (Map.Entry<String, Long> e : sizes.entrySet()) {
+                System.out.printf("    %-8s %-16s %10.2f MB%n",
+                        e.getKey(), FILE_TYPES.getOrDefault(e.getKey(), ""), e.getValue() / 1e6);
+            }
+        }
+    }
+
+    private static final Map<String, String> FILE_TYPES = Map.ofEntries(
+            Map.entry("fdt", "stored fields"),
+            Map.entry("fdx", "stored index"),
+            Map.entry("fdm", "stored meta"),
+            Map.entry("tvd", "term vectors"),
+            Map.entry("tvx", "term vec index"),
+            Map.entry("tvm", "term vec meta"),
+            Map.entry("tim", "term dictionary"),
+            Map.entry("tip", "term index"),
+            Map.entry("tmd", "term meta"),
+            Map.entry("doc", "postings docs"),
+            Map.entry("pos", "positions"),
+            Map.entry("pay", "offsets/payloads"),
+            Map.entry("psm", "postings meta"),
+            Map.entry("dvd", "doc values"),
+            Map.entry("dvm", "doc values meta"),
+            Map.entry("nvd", "norms"),
+            Map.entry("nvm", "norms meta"),
+            Map.entry("fnm", "field infos"),
+            Map.entry("si", "segment info"),
+            Map.entry("segments", "commit point")
+    );
+}
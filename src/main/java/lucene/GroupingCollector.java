@@ -0,0 +1,221 @@
+package lucene;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.Scorable;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Counts hits per value of a sorted-set doc values field (e.g. "author") and keeps
+ * the top scoring hits of each group, without loading any stored fields.
+ *
+ * Counting happens on segment ordinals; ordinals are resolved to strings only once
+ * per segment. With a sample rate below 1.0 only a deterministic fraction of the
+ * hits is counted and the counts are scaled up, so they become estimates. Top hits
+ * and the total hit count always cover every hit; without top hits, unsampled hits
+ * are skipped before their doc values are read.
+ */
+public class GroupingCollector implements Collector {
+
+    // Lowest score first, so the head of the queue is the hit to evict.
+    private static final Comparator<ScoreDoc> WORST_FIRST =
+            Comparator.<ScoreDoc>comparingDouble(sd -> sd.score)
+                    .thenComparing(sd -> sd.doc, Comparator.reverseOrder());
+
+    private final String field;
+    private final int topHitsPerGroup;
+    private final double sampleRate;
+    private final long sampleThreshold;
+    private final Map<String, Group> groups = new HashMap<>();
+    private long totalHits;
+
+    public GroupingCollector(String field, int topHitsPerGroup, double sampleRate) {
+        if (sampleRate <= 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("sampleRate must be in (0, 1], got " + sampleRate);
+        }
+        this.field = field;
+        this.topHitsPerGroup = topHitsPerGroup;
+        this.sampleRate = sampleRate;
+        this.sampleThreshold = (long) (sampleRate * (1L << 32));
+    }
+
+    public static CollectorManager<GroupingCollector, Result> manager(String field,
+                                                                           int topHitsPerGroup,
+                                                                           double sampleRate) {
+        return new CollectorManager<>() {
+            @Override
+            public GroupingCollector newCollector() {
+                return new GroupingCollector(field, topHitsPerGroup, sampleRate);
+            }
+
+            @Override
+            public Result reduce(Collection<GroupingCollector> collectors) {
+                GroupingCollector merged = new GroupingCollector(field, topHitsPerGroup, sampleRate);
+                for (GroupingCollector c : collectors) {
+                    c.groups.values().forEach(merged::merge);
+                    merged.totalHits += c.totalHits;
+                }
+                return new Result(merged.totalHits, merged.groups());
+            }
+        };
+    }
+
+    /**
+     * Number of matching documents, independent of sampling and of how many values each has.
+     */
+    public long totalHits() {
+        return totalHits;
+    }
+
+    /**
+     * Groups ordered by count (descending), then by value.
+     */
+    public List<Group> groups() {
+        List<Group> result = new ArrayList<>(groups.values());
+        result.sort(Comparator.comparingLong(Group::rawCount).reversed().thenComparing(Group::value));
+        return result;
+    }
+
+    @Override
+    public ScoreMode scoreMode() {
+        return topHitsPerGroup > 0 ? ScoreMode.COMPLETE : ScoreMode.COMPLETE_NO_SCORES;
+    }
+
+    @Override
+    public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+        SortedSetDocValues values = DocValues.getSortedSet(context.reader(), field);
+        int docBase = context.docBase;
+        int valueCount = (int) values.getValueCount();
+        long[] counts = new long[valueCount];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        PriorityQueue<ScoreDoc>[] top = new PriorityQueue[valueCount];
+
+        return new LeafCollector() {
+            private Scorable scorer;
+
+            @Override
+            public void setScorer(Scorable scorer) {
+                this.scorer = scorer;
+            }
+
+            @Override
+            public void collect(int doc) throws IOException {
+                totalHits++;
+                boolean counted = sampleRate >= 1.0 || sampled(docBase + doc);
+                if (!counted && topHitsPerGroup == 0) {
+                    return;
+                }
+                if (!values.advanceExact(doc)) {
+                    return;
+                }
+                float score = topHitsPerGroup > 0 ? scorer.score() : Float.NaN;
+                for (int i = 0; i < values.docValueCount(); i++) {
+                    int ord = (int) values.nextOrd();
+                    if (counted) {
+                        counts[ord]++;
+                    }
+                    if (topHitsPerGroup > 0) {
+                        if (top[ord] == null) {
+                            top[ord] = new PriorityQueue<>(topHitsPerGroup + 1, WORST_FIRST);
+                        }
+                        offer(top[ord], new ScoreDoc(docBase + doc, score));
+                    }
+                }
+            }
+
+            @Override
+            public void finish() throws IOException {
+                // Resolve ordinals to strings once per segment.
+                for (int ord = 0; ord < valueCount; ord++) {
+                    if (counts[ord] == 0 && top[ord] == null) {
+                        continue;
+                    }
+                    String value = values.lookupOrd(ord).utf8ToString();
+                    Group group = new Group(value, counts[ord], sampleRate, new PriorityQueue<>(WORST_FIRST));
+                    if (top[ord] != null) {
+                        group.topHits.addAll(top[ord]);
+                    }
+                    merge(group);
+                }
+            }
+        };
+    }
+
+    private void merge(Group other) {
+        Group group = groups.computeIfAbsent(other.value,
+                v -> new Group(v, 0, sampleRate, new PriorityQueue<>(topHitsPerGroup + 1, WORST_FIRST)));
+        group.rawCount += other.rawCount;
+        for (ScoreDoc sd : other.topHits) {
+            offer(group.topHits, sd);
+        }
+    }
+
+    private void offer(PriorityQueue<ScoreDoc> queue, ScoreDoc sd) {
+        queue.add(sd);
+        if (queue.size() > topHitsPerGroup) {
+            queue.poll();
+        }
+    }
+
+    private boolean sampled(int globalDoc) {
+        // Fibonacci hashing spreads consecutive doc ids over the 32-bit range.
+        int h = globalDoc * 0x9E3779B9;
+        h ^= h >>> 16;
+        return (h & 0xFFFFFFFFL) < sampleThreshold;
+    }
+
+    public record Result(long totalHits, List<Group> groups) {
+    }
+
+    public static class Group {
+        private final String value;
+        private final double sampleRate;
+        private final PriorityQueue<ScoreDoc> topHits;
+        private long rawCount;
+
+        Group(String value, long rawCount, double sampleRate, PriorityQueue<ScoreDoc> topHits) {
+            this.value = value;
+            this.rawCount = rawCount;
+            this.sampleRate = sampleRate;
+            this.topHits = topHits;
+        }
+
+        public String value() {
+            return value;
+        }
+
+        /**
+         * Number of hits in this group; an estimate when sampling was used.
+         */
+        public long count() {
+            return sampleRate < 1.0 ? Math.round(rawCount / sampleRate) : rawCount;
+        }
+
+        public long rawCount() {
+            return rawCount;
+        }
+
+        /**
+         * Best hits of this group, highest score first.
+         */
+        public List<ScoreDoc> topHits() {
+            List<ScoreDoc> hits = new ArrayList<>(topHits);
+            hits.sort(WORST_FIRST.reversed());
+            return hits;
+        }
+    }
+}
@@ -16,6 +16,7 @@ import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.ByteBuffersDirectory;
+import metrics.Metrics;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -114,7 +115,22 @@ public class HelloLucene {
         System.out.println("\n--- (g) frequentTermsWithStopWords ---");
         GermanLiterature.frequentTermsWithStopWords(indexPath, stopwordFreeIndex);
 
+        // -----------------------------
+        // 8. Run hitsPerAuthor (doc values faceting)
+        // -----------------------------
+        System.out.println("\n--- (h) hitsPerAuthor ---");
+        GermanLiterature.hitsPerAuthor(indexPath);
+
+        // -----------------------------
+        // 9. Run highlightMatches
+        // -----------------------------
+        System.out.println("\n--- (i) highlightMatches ---");
+        Path passagesIndex = Files.createTempDirectory("german_lit_index_passages");
+        GermanLiterature.writePassageIndex(passagesIndex, textsPath);
+        GermanLiterature.highlightMatches(indexPath, passagesIndex);
+
         System.out.println("\n--- All tasks completed ---");
+        Metrics.flush();
     }
 
     private static void addDoc(IndexWriter writer, String title) throws Exception {
@@ -0,0 +1,60 @@
+package lucene;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.codecs.lucene103.Lucene103Codec;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriterConfig;
+
+/**
+ * Trade-offs between index size, stored-field fetch cost and features for the "content" field.
+ */
+public enum IndexProfile {
+
+    /**
+     * Default: LZ4 stored fields, full content, term vectors and offsets.
+     */
+    SPEED(Lucene103Codec.Mode.BEST_SPEED, true),
+
+    /**
+     * Same fields as SPEED, but stored fields use DEFLATE with larger blocks.
+     * Smaller on disk, slower to fetch.
+     */
+    COMPRESSION(Lucene103Codec.Mode.BEST_COMPRESSION, true),
+
+    /**
+     * Content is only indexed (with positions, so phrase queries still work). No stored
+     * content, term vectors or offsets, so highlighting, MoreLikeThis and re-indexing
+     * from the index are not possible.
+     */
+    SEARCH_ONLY(Lucene103Codec.Mode.BEST_SPEED, false);
+
+    private final Lucene103Codec.Mode mode;
+    private final boolean storeContent;
+
+    IndexProfile(Lucene103Codec.Mode mode, boolean storeContent) {
+        this.mode = mode;
+        this.storeContent = storeContent;
+    }
+
+    public IndexWriterConfig writerConfig(Analyzer analyzer) {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setCodec(new Lucene103Codec(mode));
+        return config;
+    }
+
+    public FieldType contentFieldType() {
+        FieldType contentType = new FieldType();
+        contentType.setTokenized(true);
+        if (storeContent) {
+            // Offsets in postings let the highlighter find passages without re-analyzing the text
+            contentType.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+            contentType.setStored(true);
+            contentType.setStoreTermVectors(true);
+        } else {
+            contentType.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS);
+        }
+        contentType.freeze();
+        return contentType;
+    }
+}
@@ -0,0 +1,39 @@
+package lucene;
+
+import java.nio.file.Path;
+
+/**
+ * Maintenance commands for an existing index.
+ *
+ * Usage:
+ *   IndexTool forcemerge <indexPath> <profile> <maxSegments>
+ *   IndexTool rewrite <sourcePath> <targetPath> <profile>
+ *
+ * profile is one of SPEED, COMPRESSION, SEARCH_ONLY (see {@link IndexProfile}).
+ */
+public class IndexTool {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 4 && args[0].equals("forcemerge")) {
+            Path indexPath = Path.of(args[1]);
+            IndexProfile profile = IndexProfile.valueOf(args[2].toUpperCase());
+            int maxSegments = Integer.parseInt(args[3]);
+
+            GermanLiterature.forceMerge(indexPath, profile, maxSegments);
+            System.out.println("Merged " + indexPath.toAbsolutePath() + " to at most " + maxSegments + " segment(s)");
+        } else if (args.length == 4 && args[0].equals("rewrite")) {
+            Path sourcePath = Path.of(args[1]);
+            Path targetPath = Path.of(args[2]);
+            IndexProfile profile = IndexProfile.valueOf(args[3].toUpperCase());
+
+            GermanLiterature.rewriteIndex(sourcePath, targetPath, profile);
+            System.out.println("Rewrote " + sourcePath.toAbsolutePath() + " to "
+                    + targetPath.toAbsolutePath() + " with " + profile);
+        } else {
+            System.err.println("Usage:");
+            System.err.println("  IndexTool forcemerge <indexPath> <profile> <maxSegments>");
+            System.err.println("  IndexTool rewrite <sourcePath> <targetPath> <profile>");
+            System.exit(1);
+        }
+    }
+}
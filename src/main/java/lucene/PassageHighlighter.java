@@ -0,0 +1,93 @@
+package lucene;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.de.GermanAnalyzer;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.LengthGoalBreakIterator;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import metrics.Metrics;
+import metrics.QueryProfile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Snippets for whole-novel hits, read from a passage index (see
+ * {@link GermanLiterature#writePassageIndex}) instead of the full stored work.
+ *
+ * For a work, the query is run against that work's passages and only the best
+ * scoring ones are highlighted. Match offsets come from the postings, so nothing is
+ * re-analyzed, and only those passages (about 1,000 chars each) are decompressed,
+ * so the cost does not depend on the length of the work. Passages are ranked by the
+ * query itself: a boolean MUST query only yields passages containing all its terms.
+ */
+public class PassageHighlighter implements Closeable {
+
+    private final Analyzer analyzer = new GermanAnalyzer();
+    private final Directory directory;
+    private final IndexReader reader;
+    private final IndexSearcher searcher;
+    private final UnifiedHighlighter highlighter;
+
+    public PassageHighlighter(Path passagesPath) throws IOException {
+        directory = FSDirectory.open(passagesPath);
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+        highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                .withBreakIterator(() -> LengthGoalBreakIterator.createClosestToLength(
+                        BreakIterator.getSentenceInstance(Locale.GERMAN), 200, 0.5f))
+                .withFormatter(new DefaultPassageFormatter("[", "]", " ... ", false))
+                // Passages without a match (e.g. phrase terms apart) yield no snippet
+                .withMaxNoHighlightPassages(0)
+                .build();
+    }
+
+    /**
+     * Returns up to {@code passages} snippets of the work with the given title, best first,
+     * with matches wrapped in [brackets].
+     */
+    public List<String> highlight(Query query, String title, int passages) throws IOException {
+        Query inWork = new BooleanQuery.Builder()
+                .add(query, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term("title", title)), BooleanClause.Occur.FILTER)
+                .build();
+
+        QueryProfile profile = Metrics.profile(inWork);
+        long start = profile.start();
+        TopDocs top = searcher.search(inWork, passages);
+        String[] snippets = highlighter.highlight("content", inWork, top, 1);
+        profile.end(Metrics.HIGHLIGHT, start);
+        profile.finish(top.totalHits.value());
+
+        List<String> result = new ArrayList<>(snippets.length);
+        for (String snippet : snippets) {
+            if (snippet != null) {
+                result.add(snippet);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+        directory.close();
+        analyzer.close();
+    }
+}
@@ -0,0 +1,136 @@
+package metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exposes the live histograms and counters as attributes of the MBean
+ * "metrics:type=Metrics", e.g. "query.search.p99Ms" or "docs.indexed".
+ * JMX is pull-based, so {@link #export} has nothing to do.
+ */
+public final class JmxExporter implements MetricsExporter, DynamicMBean {
+
+    public static final String OBJECT_NAME = "metrics:type=Metrics";
+
+    private final AtomicLong slowQueries = new AtomicLong();
+    private volatile String lastSlowQuery = "";
+
+    public JmxExporter() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            var server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public void export(Collection<LatencyHistogram> histograms, Map<String, Long> counters) {
+    }
+
+    @Override
+    public void slowQuery(QueryProfile profile) {
+        slowQueries.incrementAndGet();
+        lastSlowQuery = profile.query() + " (" + profile.totalNanos() / 1_000_000 + " ms, "
+                + profile.hits() + " hits)";
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        if (attribute.equals("slowQueries")) return slowQueries.get();
+        if (attribute.equals("lastSlowQuery")) return lastSlowQuery;
+
+        Long counter = Metrics.counters().get(attribute);
+        if (counter != null) return counter;
+
+        int dot = attribute.lastIndexOf('.');
+        LatencyHistogram h = dot > 0 ? find(attribute.substring(0, dot)) : null;
+        if (h != null) {
+            switch (attribute.substring(dot + 1)) {
+                case "count": return h.count();
+                case "meanMs": return h.meanMillis();
+                case "p50Ms": return h.percentileMillis(50);
+                case "p99Ms": return h.percentileMillis(99);
+                case "maxMs": return h.maxMillis();
+                default: break;
+            }
+        }
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException ignored) {
+                // Per the DynamicMBean contract, unknown attributes are omitted.
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attrs = new ArrayList<>();
+        attrs.add(attr("slowQueries", "long"));
+        attrs.add(attr("lastSlowQuery", "java.lang.String"));
+        for (String counter : Metrics.counters().keySet()) {
+            attrs.add(attr(counter, "long"));
+        }
+        for (LatencyHistogram h : Metrics.histograms()) {
+            attrs.add(attr(h.name() + ".count", "long"));
+            attrs.add(attr(h.name() + ".meanMs", "double"));
+            attrs.add(attr(h.name() + ".p50Ms", "double"));
+            attrs.add(attr(h.name() + ".p99Ms", "double"));
+            attrs.add(attr(h.name() + ".maxMs", "double"));
+        }
+        return new MBeanInfo(getClass().getName(), "Lucene/Elasticsearch query metrics",
+                attrs.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+    }
+
+    private static LatencyHistogram find(String operation) {
+        for (LatencyHistogram h : Metrics.histograms()) {
+            if (h.name().equals(operation)) return h;
+        }
+        return null;
+    }
+
+    private static MBeanAttributeInfo attr(String name, String type) {
+        return new MBeanAttributeInfo(name, type, name, true, false, false);
+    }
+}
@@ -0,0 +1,94 @@
+package metrics;
+
+import java.io.PrintStream;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes one JSON object per line: a "metrics" record per flush and a
+ * "slow_query" record per slow query.
+ */
+public class JsonLogExporter implements MetricsExporter {
+
+    private final PrintStream out;
+
+    public JsonLogExporter(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void export(Collection<LatencyHistogram> histograms, Map<String, Long> counters) {
+        StringBuilder sb = new StringBuilder("{\"type\":\"metrics\",\"timestamp\":")
+                .append(System.currentTimeMillis())
+                .append(",\"latency_ms\":{");
+        boolean first = true;
+        for (LatencyHistogram h : histograms) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append(quote(h.name())).append(":{")
+                    .append("\"count\":").append(h.count())
+                    .append(",\"mean\":").append(number(h.meanMillis()))
+                    .append(",\"p50\":").append(number(h.percentileMillis(50)))
+                    .append(",\"p99\":").append(number(h.percentileMillis(99)))
+                    .append(",\"max\":").append(number(h.maxMillis()))
+                    .append('}');
+        }
+        sb.append("},\"counters\":{");
+        first = true;
+        for (Map.Entry<String, Long> e : counters.entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append(quote(e.getKey())).append(':').append(e.getValue());
+        }
+        sb.append("}}");
+        out.println(sb);
+    }
+
+    @Override
+    public void slowQuery(QueryProfile profile) {
+        StringBuilder sb = new StringBuilder("{\"type\":\"slow_query\",\"timestamp\":")
+                .append(System.currentTimeMillis())
+                .append(",\"query\":").append(quote(profile.query()))
+                .append(",\"hits\":").append(profile.hits())
+                .append(",\"took_ms\":").append(number(profile.totalNanos() / 1_000_000.0));
+        if (profile.serverNanos() >= 0) {
+            sb.append(",\"server_took_ms\":").append(number(profile.serverNanos() / 1_000_000.0));
+        }
+        sb.append(",\"phases_ms\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> e : profile.phases().entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append(quote(e.getKey())).append(':').append(number(e.getValue() / 1_000_000.0));
+        }
+        sb.append("}}");
+        out.println(sb);
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
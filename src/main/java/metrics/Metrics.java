@@ -0,0 +1,184 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide latency histograms, counters and slow-query log.
+ *
+ * Disabled by default. When disabled, {@link #start()} returns 0 without reading
+ * the clock and every recording method returns after a single volatile read.
+ *
+ * Configuration (environment variable or JVM property):
+ * - METRICS_ENABLED / -Dmetrics.enabled=true
+ * - METRICS_EXPORTERS / -Dmetrics.exporters=json,jmx
+ * - METRICS_SLOW_QUERY_MS / -Dmetrics.slowQueryMs=100
+ */
+public final class Metrics {
+
+    // Operation names shared by the Lucene and Elasticsearch code paths.
+    public static final String INDEX_OPEN = "index.open";
+    public static final String REWRITE = "query.rewrite";
+    public static final String SEARCH = "query.search";
+    public static final String STORED_FETCH = "stored.fetch";
+    public static final String BULK = "bulk.roundtrip";
+    public static final String AGGREGATION = "aggregation";
+    public static final String FACET = "facet.collect";
+    public static final String HIGHLIGHT = "highlight";
+    public static final String FORCE_MERGE = "index.forcemerge";
+    public static final String INDEX_REWRITE = "index.rewrite";
+    // Server-side "took" of an Elasticsearch response; overlaps the client-side round trip.
+    public static final String SERVER_TOOK = "query.server";
+
+    public static final String DOCS_INDEXED = "docs.indexed";
+    public static final String BYTES_PROCESSED = "bytes.processed";
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final List<MetricsExporter> EXPORTERS = new CopyOnWriteArrayList<>();
+
+    private static volatile boolean enabled;
+    private static volatile long slowQueryNanos;
+
+    static {
+        enabled = Boolean.parseBoolean(config("METRICS_ENABLED", "metrics.enabled", "false"));
+        // Bad settings must not break the indexing and query code that touches this class.
+        String slowQueryMs = config("METRICS_SLOW_QUERY_MS", "metrics.slowQueryMs", "100");
+        try {
+            slowQueryNanos = Long.parseLong(slowQueryMs) * 1_000_000L;
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid metrics.slowQueryMs '" + slowQueryMs + "', using 100");
+            slowQueryNanos = 100 * 1_000_000L;
+        }
+
+        for (String name : config("METRICS_EXPORTERS", "metrics.exporters", "").split(",")) {
+            try {
+                switch (name.trim().toLowerCase()) {
+                    case "" -> { }
+                    case "json" -> addExporter(new JsonLogExporter(System.err));
+                    case "jmx" -> addExporter(new JmxExporter());
+                    default -> System.err.println("Ignoring unknown metrics exporter '" + name.trim() + "'");
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Could not create metrics exporter '" + name.trim() + "': " + e.getMessage());
+            }
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static void setSlowQueryThresholdMillis(long millis) {
+        slowQueryNanos = millis * 1_000_000L;
+    }
+
+    public static void addExporter(MetricsExporter exporter) {
+        EXPORTERS.add(exporter);
+    }
+
+    /**
+     * Start timestamp for {@link #stop(String, long)}; 0 when disabled.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(String operation, long startNanos) {
+        // startNanos == 0: metrics were off when start() ran
+        if (enabled && startNanos != 0L) {
+            histogram(operation).record(System.nanoTime() - startNanos);
+        }
+    }
+
+    public static void count(String counter, long delta) {
+        if (enabled) {
+            COUNTERS.computeIfAbsent(counter, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    /**
+     * Starts a per-query profile, or returns {@link QueryProfile#DISABLED} when metrics are off.
+     * The query is only turned into a string if it ends up in the slow-query log.
+     */
+    public static QueryProfile profile(Object query) {
+        return enabled ? new QueryProfile(query, System.nanoTime()) : QueryProfile.DISABLED;
+    }
+
+    /**
+     * Like {@link #profile(Object)}, for queries without a useful toString(): the
+     * description is only built if the query ends up in the slow-query log.
+     */
+    public static QueryProfile profile(Supplier<String> description) {
+        if (!enabled) {
+            return QueryProfile.DISABLED;
+        }
+        Object query = new Object() {
+            @Override
+            public String toString() {
+                return description.get();
+            }
+        };
+        return new QueryProfile(query, System.nanoTime());
+    }
+
+    public static LatencyHistogram histogram(String operation) {
+        return HISTOGRAMS.computeIfAbsent(operation, LatencyHistogram::new);
+    }
+
+    public static Map<String, Long> counters() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        COUNTERS.forEach((k, v) -> snapshot.put(k, v.sum()));
+        return snapshot;
+    }
+
+    public static List<LatencyHistogram> histograms() {
+        List<LatencyHistogram> snapshot = new ArrayList<>(HISTOGRAMS.values());
+        snapshot.sort((a, b) -> a.name().compareTo(b.name()));
+        return snapshot;
+    }
+
+    /**
+     * Pushes the current histograms and counters to every registered exporter.
+     */
+    public static void flush() {
+        if (!enabled) {
+            return;
+        }
+        List<LatencyHistogram> histograms = histograms();
+        Map<String, Long> counters = counters();
+        for (MetricsExporter exporter : EXPORTERS) {
+            exporter.export(histograms, counters);
+        }
+    }
+
+    static void slowQuery(QueryProfile profile) {
+        if (profile.totalNanos() < slowQueryNanos) {
+            return;
+        }
+        for (MetricsExporter exporter : EXPORTERS) {
+            exporter.slowQuery(profile);
+        }
+    }
+
+    private static String config(String envKey, String propKey, String defaultValue) {
+        String env = System.getenv(envKey);
+        if (env != null && !env.isBlank()) return env.trim();
+        String prop = System.getProperty(propKey);
+        if (prop != null && !prop.isBlank()) return prop.trim();
+        return defaultValue;
+    }
+}
@@ -0,0 +1,21 @@
+package metrics;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Destination for collected metrics. Register implementations with
+ * {@link Metrics#addExporter(MetricsExporter)}.
+ */
+public interface MetricsExporter {
+
+    /**
+     * Called by {@link Metrics#flush()} with the current histograms and counters.
+     */
+    void export(Collection<LatencyHistogram> histograms, Map<String, Long> counters);
+
+    /**
+     * Called for every query whose total time exceeds the slow-query threshold.
+     */
+    void slowQuery(QueryProfile profile);
+}
@@ -0,0 +1,104 @@
+package metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Phase breakdown of a single query. Each phase is also recorded into the
+ * global histogram of the same name, and the finished profile is handed to the
+ * slow-query log when it exceeds the configured threshold.
+ *
+ * Obtain instances through {@link Metrics#profile(Object)}; when metrics are
+ * disabled this returns {@link #DISABLED}, whose methods do nothing.
+ */
+public class QueryProfile {
+
+    public static final QueryProfile DISABLED = new QueryProfile("", 0L) {
+        @Override
+        public long start() {
+            return 0L;
+        }
+
+        @Override
+        public void end(String phase, long startNanos) {
+        }
+
+        @Override
+        public void record(String phase, long nanos) {
+        }
+
+        @Override
+        public void serverTook(long nanos) {
+        }
+
+        @Override
+        public void finish(long hits) {
+        }
+    };
+
+    private final Object query;
+    private final long startNanos;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private long hits;
+    private long totalNanos;
+    private long serverNanos = -1;
+
+    QueryProfile(Object query, long startNanos) {
+        this.query = query;
+        this.startNanos = startNanos;
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void end(String phase, long startNanos) {
+        record(phase, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records an externally measured phase.
+     */
+    public void record(String phase, long nanos) {
+        phases.merge(phase, nanos, Long::sum);
+        Metrics.histogram(phase).record(nanos);
+    }
+
+    /**
+     * Records the server-side "took" of an Elasticsearch response. It overlaps the
+     * client-side phases, so it is kept apart from {@link #phases()}.
+     */
+    public void serverTook(long nanos) {
+        serverNanos = nanos;
+        Metrics.histogram(Metrics.SERVER_TOOK).record(nanos);
+    }
+
+    public void finish(long hits) {
+        this.hits = hits;
+        this.totalNanos = System.nanoTime() - startNanos;
+        Metrics.slowQuery(this);
+    }
+
+    public String query() {
+        return String.valueOf(query);
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * Server-side time, or -1 if none was reported.
+     */
+    public long serverNanos() {
+        return serverNanos;
+    }
+
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    public Map<String, Long> phases() {
+        return phases;
+    }
+}